@@ -0,0 +1,229 @@
+package at.hazm.math;
+
+/**
+ * A sampler of the binomial distribution B(n, p), the number of successes in n independent trials with success
+ * probability p.
+ * <p>The sample is drawn for min(p, 1-p) and reflected if p &gt; 0.5. When n&middot;min(p, 1-p) &lt; 30 it's drawn by
+ * sequential search of the inverse CDF (BINV), otherwise by the triangle-parallelogram-exponential rejection (BTPE)
+ * whose cost doesn't depend on n.</p>
+ *
+ * @author Takami Torao
+ * @see <a href="https://doi.org/10.1145/42372.42381">V. Kachitvichyanukul and B. W. Schmeiser, Binomial random variate
+ * generation, Communications of the ACM 31, 216-222 (1988)</a>
+ */
+public strictfp class BinomialSampler extends DiscreteSampler {
+
+    /**
+     * the mean n&middot;min(p, 1-p) below which the inversion is used instead of BTPE
+     */
+    static final double INVERSION_THRESHOLD = 30.0;
+
+    private final int n;
+    private final double p;
+
+    /**
+     * min(p, 1-p), and the sample is reflected to n - x if this differs from p
+     */
+    private final double r;
+    private final double q;
+    private final boolean inversion;
+
+    /*
+     * constants for BINV
+     */
+    private final double qn;
+    private final double s;
+    private final double as;
+    private final double bound;
+
+    /*
+     * constants for BTPE
+     */
+    private final long m;
+    private final double nrq;
+    private final double xm;
+    private final double xl;
+    private final double xr;
+    private final double c;
+    private final double laml;
+    private final double lamr;
+    private final double p1;
+    private final double p2;
+    private final double p3;
+    private final double p4;
+
+    /**
+     * Construct binomial sampler with specified number of trials and success probability.
+     *
+     * @param random the source of randomness
+     * @param n      number of trials n &ge; 0
+     * @param p      success probability 0 &le; p &le; 1
+     * @throws IllegalArgumentException if n is negative or p is out of [0,1]
+     */
+    public BinomialSampler(SFMTRandom random, int n, double p) throws IllegalArgumentException {
+        super(random);
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative: " + n);
+        }
+        if (!(p >= 0.0 && p <= 1.0)) {
+            throw new IllegalArgumentException("p must be in [0,1]: " + p);
+        }
+        this.n = n;
+        this.p = p;
+        this.r = Math.min(p, 1.0 - p);
+        this.q = 1.0 - r;
+        this.inversion = n * r < INVERSION_THRESHOLD;
+
+        double np = n * r;
+        this.s = r / q;
+        this.as = (n + 1.0) * s;
+        this.qn = Math.exp(n * Math.log1p(-r));
+        this.bound = Math.min(n, np + 10.0 * Math.sqrt(np * q + 1));
+
+        double fm = np + r;
+        this.m = (long) Math.floor(fm);
+        this.nrq = np * q;
+        this.p1 = Math.floor(2.195 * Math.sqrt(nrq) - 4.6 * q) + 0.5;
+        this.xm = m + 0.5;
+        this.xl = xm - p1;
+        this.xr = xm + p1;
+        this.c = 0.134 + 20.5 / (15.3 + m);
+        double al = (fm - xl) / (fm - xl * r);
+        this.laml = al * (1.0 + al / 2.0);
+        double ar = (xr - fm) / (xr * q);
+        this.lamr = ar * (1.0 + ar / 2.0);
+        this.p2 = p1 * (1.0 + 2.0 * c);
+        this.p3 = p2 + c / laml;
+        this.p4 = p3 + c / lamr;
+    }
+
+    /**
+     * Return the number of trials.
+     *
+     * @return n
+     */
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Return the success probability.
+     *
+     * @return p
+     */
+    public double getP() {
+        return p;
+    }
+
+    @Override
+    public long nextLong() {
+        if (r == 0.0) {
+            return p == 0.0 ? 0 : n;
+        }
+        long y = inversion ? inversion() : btpe();
+        return p > 0.5 ? n - y : y;
+    }
+
+    /**
+     * Draw a sample for min(p, 1-p) by sequential search from zero (BINV).
+     *
+     * @return sample
+     */
+    private long inversion() {
+        long x = 0;
+        double px = qn;
+        double u = nextUniform();
+        while (u > px) {
+            x++;
+            if (x > bound) {
+                x = 0;
+                px = qn;
+                u = nextUniform();
+            } else {
+                u -= px;
+                px *= as / x - s;
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Draw a sample for min(p, 1-p) by BTPE.
+     *
+     * @return sample
+     */
+    private long btpe() {
+        while (true) {
+            double u = nextUniform() * p4;
+            double v = nextOpenUniform();
+            long y;
+
+            // triangular region
+            if (u <= p1) {
+                return (long) Math.floor(xm - p1 * v + u);
+            }
+
+            if (u <= p2) {
+                // parallelogram region
+                double x = xl + (u - p1) / c;
+                v = v * c + 1.0 - Math.abs(m - x + 0.5) / p1;
+                if (v > 1.0) {
+                    continue;
+                }
+                y = (long) Math.floor(x);
+            } else if (u <= p3) {
+                // left exponential tail
+                y = (long) Math.floor(xl + Math.log(v) / laml);
+                if (y < 0) {
+                    continue;
+                }
+                v = v * (u - p2) * laml;
+            } else {
+                // right exponential tail
+                y = (long) Math.floor(xr - Math.log(v) / lamr);
+                if (y > n) {
+                    continue;
+                }
+                v = v * (u - p3) * lamr;
+            }
+
+            long k = Math.abs(y - m);
+            if (k <= 20 || k >= nrq / 2 - 1) {
+                // explicit evaluation of f(y) / f(m) by recursion
+                double f = 1.0;
+                if (m < y) {
+                    for (long i = m + 1; i <= y; i++) {
+                        f *= as / i - s;
+                    }
+                } else if (m > y) {
+                    for (long i = y + 1; i <= m; i++) {
+                        f /= as / i - s;
+                    }
+                }
+                if (v <= f) {
+                    return y;
+                }
+                continue;
+            }
+
+            // squeeze by the normal approximation, then the final test by Stirling's formula
+            double rho = (k / nrq) * ((k * (k / 3.0 + 0.625) + 0.16666666666666666) / nrq + 0.5);
+            double t = -k * (double) k / (2 * nrq);
+            double logV = Math.log(v);
+            if (logV < t - rho) {
+                return y;
+            }
+            if (logV > t + rho) {
+                continue;
+            }
+            double x1 = y + 1;
+            double f1 = m + 1;
+            double z = n + 1.0 - m;
+            double w = n - y + 1;
+            if (logV <= xm * Math.log(f1 / x1) + (n - m + 0.5) * Math.log(z / w) + (y - m) * Math.log(w * r / (x1 * q))
+                    + stirlingTail(f1) + stirlingTail(z) - stirlingTail(x1) - stirlingTail(w)) {
+                return y;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package at.hazm.math;
+
+/**
+ * A sampler of the geometric distribution, the number of failures before the first success in Bernoulli trials with
+ * success probability p.
+ * <p>When p &ge; 1/3 (mean &le; 2) the sample is drawn by sequential search of the inverse CDF, which avoids the
+ * logarithm. Otherwise it's drawn by the closed-form inversion &lfloor;ln(U) / ln(1-p)&rfloor;. Since the geometric
+ * distribution has this closed-form inverse, the cost is O(1) for any p without a rejection step.</p>
+ *
+ * @author Takami Torao
+ */
+public strictfp class GeometricSampler extends DiscreteSampler {
+
+    /**
+     * the success probability above which the sequential search is used instead of the closed-form inversion
+     */
+    static final double SEARCH_THRESHOLD = 1.0 / 3.0;
+
+    private final double p;
+    private final double q;
+
+    /**
+     * ln(1-p) for the closed-form inversion
+     */
+    private final double logQ;
+
+    /**
+     * Construct geometric sampler with specified success probability.
+     *
+     * @param random the source of randomness
+     * @param p      success probability 0 &lt; p &le; 1
+     * @throws IllegalArgumentException if p is out of (0,1], or too small for samples to fit in a long
+     */
+    public GeometricSampler(SFMTRandom random, double p) throws IllegalArgumentException {
+        super(random);
+        if (!(p > 0.0 && p <= 1.0)) {
+            throw new IllegalArgumentException("p must be in (0,1]: " + p);
+        }
+        this.p = p;
+        this.q = 1.0 - p;
+        this.logQ = Math.log1p(-p);
+        // the largest sample is given by the smallest uniform deviate 2^-53
+        if (!(Math.log(0x1.0p-53) / logQ < 0x1.0p63)) {
+            throw new IllegalArgumentException("p is too small for samples to fit in long: " + p);
+        }
+    }
+
+    /**
+     * Return the success probability.
+     *
+     * @return p
+     */
+    public double getP() {
+        return p;
+    }
+
+    @Override
+    public long nextLong() {
+        if (p >= SEARCH_THRESHOLD) {
+            if (p == 1.0) {
+                return 0;
+            }
+            double u = nextUniform();
+            double px = p;
+            double s = px;
+            long x = 0;
+            while (u >= s) {
+                x++;
+                px *= q;
+                s += px;
+                if (px == 0.0) {
+                    // the rounding error of the cumulative sum exceeds the remaining tail
+                    return x;
+                }
+            }
+            return x;
+        }
+        return (long) (Math.log(nextOpenUniform()) / logQ);
+    }
+}
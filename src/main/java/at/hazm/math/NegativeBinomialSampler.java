@@ -0,0 +1,194 @@
+package at.hazm.math;
+
+/**
+ * A sampler of the negative binomial distribution NB(r, p), the number of failures before the r-th success in
+ * Bernoulli trials with success probability p. The number of successes r may be any positive real.
+ * <p>When the mean r(1-p)/p &lt; 10 the sample is drawn by sequential search of the inverse CDF. Otherwise it's drawn
+ * as the Poisson-gamma mixture Poisson(&lambda;) with &lambda; ~ Gamma(r, (1-p)/p), where the gamma variate is drawn by
+ * the Marsaglia-Tsang rejection and the Poisson variate by {@link PoissonSampler}, so the cost doesn't depend on the
+ * mean.</p>
+ *
+ * @author Takami Torao
+ * @see <a href="https://doi.org/10.1145/358407.358414">G. Marsaglia and W. W. Tsang, A simple method for generating
+ * gamma variables, ACM Transactions on Mathematical Software 26, 363-372 (2000)</a>
+ */
+public strictfp class NegativeBinomialSampler extends DiscreteSampler {
+
+    /**
+     * the mean below which the inversion is used instead of the Poisson-gamma mixture
+     */
+    static final double INVERSION_THRESHOLD = 10.0;
+
+    private final double r;
+    private final double p;
+    private final double q;
+    private final double mean;
+
+    /**
+     * p<sup>r</sup>, the probability of zero for the inversion
+     */
+    private final double p0;
+
+    /**
+     * (1-p)/p, the scale of gamma distribution for the mixture
+     */
+    private final double scale;
+
+    /*
+     * constants for Marsaglia-Tsang with shape r, or r+1 if r < 1
+     */
+    private final double d;
+    private final double c;
+    private final double invR;
+
+    /**
+     * Poisson sampler whose mean is changed for each sample
+     */
+    private final PoissonSampler poisson;
+
+    /**
+     * the second normal deviate of the polar method
+     */
+    private double spareNormal;
+    private boolean hasSpareNormal = false;
+
+    /**
+     * Construct negative binomial sampler with specified number of successes and success probability.
+     *
+     * @param random the source of randomness
+     * @param r      number of successes r &gt; 0
+     * @param p      success probability 0 &lt; p &le; 1
+     * @throws IllegalArgumentException if r is not positive finite, p is out of (0,1], or the mean r(1-p)/p is too
+     *                                  large for samples to fit in a long
+     */
+    public NegativeBinomialSampler(SFMTRandom random, double r, double p) throws IllegalArgumentException {
+        super(random);
+        if (!(r > 0.0) || Double.isInfinite(r)) {
+            throw new IllegalArgumentException("r must be positive finite value: " + r);
+        }
+        if (!(p > 0.0 && p <= 1.0)) {
+            throw new IllegalArgumentException("p must be in (0,1]: " + p);
+        }
+        this.r = r;
+        this.p = p;
+        this.q = 1.0 - p;
+        this.mean = r * q / p;
+        this.p0 = Math.exp(r * Math.log(p));
+        this.scale = q / p;
+        double shape = r < 1.0 ? r + 1.0 : r;
+        this.d = shape - 1.0 / 3.0;
+        this.c = 1.0 / Math.sqrt(9.0 * d);
+        this.invR = 1.0 / r;
+        this.poisson = new PoissonSampler(random, 0.0);
+
+        // Chernoff bound of P(Gamma(r, scale) > the max mean of Poisson), which must be negligible (< e^-45 ~ 2^-64)
+        double y = PoissonSampler.MAX_MEAN / scale;
+        if (mean >= INVERSION_THRESHOLD && !(y > r && r * Math.log(y / r) + r - y < -45.0)) {
+            throw new IllegalArgumentException("mean r(1-p)/p is too large for samples to fit in long: " + mean);
+        }
+    }
+
+    /**
+     * Return the number of successes.
+     *
+     * @return r
+     */
+    public double getR() {
+        return r;
+    }
+
+    /**
+     * Return the success probability.
+     *
+     * @return p
+     */
+    public double getP() {
+        return p;
+    }
+
+    @Override
+    public long nextLong() {
+        if (mean < INVERSION_THRESHOLD) {
+            return inversion();
+        }
+        double lambda;
+        do {
+            // the constructor ensures that the retry occurs with negligible probability
+            lambda = nextGamma() * scale;
+        } while (lambda > PoissonSampler.MAX_MEAN);
+        poisson.setMean(lambda);
+        return poisson.nextLong();
+    }
+
+    /**
+     * Draw a sample by sequential search from zero with the recurrence f(x+1) = f(x)(1-p)(x+r)/(x+1).
+     *
+     * @return sample
+     */
+    private long inversion() {
+        retry:
+        while (true) {
+            double u = nextUniform();
+            double px = p0;
+            double s = px;
+            long x = 0;
+            while (u >= s) {
+                px *= q * (x + r) / (x + 1);
+                x++;
+                if (px == 0.0) {
+                    // the rounding error of the cumulative sum exceeds the remaining tail
+                    continue retry;
+                }
+                s += px;
+            }
+            return x;
+        }
+    }
+
+    /**
+     * Draw a gamma variate with shape r and unit scale by Marsaglia-Tsang. For r &lt; 1 it's boosted to shape r+1 and
+     * multiplied by U<sup>1/r</sup>.
+     *
+     * @return gamma variate
+     */
+    private double nextGamma() {
+        double g;
+        while (true) {
+            double x = nextNormal();
+            double v = 1.0 + c * x;
+            if (v <= 0.0) {
+                continue;
+            }
+            v = v * v * v;
+            double u = nextOpenUniform();
+            double x2 = x * x;
+            if (u < 1.0 - 0.0331 * x2 * x2 || Math.log(u) < 0.5 * x2 + d * (1.0 - v + Math.log(v))) {
+                g = d * v;
+                break;
+            }
+        }
+        return r < 1.0 ? g * Math.pow(nextOpenUniform(), invR) : g;
+    }
+
+    /**
+     * Draw a standard normal variate by Marsaglia's polar method.
+     *
+     * @return normal variate
+     */
+    private double nextNormal() {
+        if (hasSpareNormal) {
+            hasSpareNormal = false;
+            return spareNormal;
+        }
+        double u, v, s;
+        do {
+            u = 2.0 * nextUniform() - 1.0;
+            v = 2.0 * nextUniform() - 1.0;
+            s = u * u + v * v;
+        } while (s >= 1.0 || s == 0.0);
+        double f = Math.sqrt(-2.0 * Math.log(s) / s);
+        spareNormal = v * f;
+        hasSpareNormal = true;
+        return u * f;
+    }
+}
@@ -0,0 +1,165 @@
+package at.hazm.math;
+
+/**
+ * A sampler of the Poisson distribution with specified mean &mu;.
+ * <p>For &mu; &lt; 10 the sample is drawn by sequential search of the inverse CDF, which takes O(&mu;) steps for a
+ * uniform deviate. For &mu; &ge; 10 it's switched to the transformed rejection with squeeze (PTRS) that takes about 1.1
+ * pair of uniform deviates regardless of &mu;.</p>
+ *
+ * @author Takami Torao
+ * @see <a href="https://doi.org/10.1016/0167-6687(93)90997-4">W. H&ouml;rmann, The transformed rejection method for
+ * generating Poisson random variables, Insurance: Mathematics and Economics 12, 39-45 (1993)</a>
+ */
+public strictfp class PoissonSampler extends DiscreteSampler {
+
+    /**
+     * the mean below which the inversion is used instead of PTRS
+     */
+    static final double INVERSION_THRESHOLD = 10.0;
+
+    /**
+     * the upper limit of mean, so that samples fit in a long
+     */
+    static final double MAX_MEAN = 0x1.0p62;
+
+    private double mean;
+
+    /**
+     * e<sup>-&mu;</sup> for the inversion
+     */
+    private double expNegMean;
+
+    /*
+     * constants for PTRS, where the mean is split into the integer part and the fraction so that the sample and its
+     * difference from the mean are evaluated without loss of precision even for a large mean
+     */
+    private double logMean;
+    private long base;
+    private double fraction;
+    private double a;
+    private double b;
+    private double invAlpha;
+    private double vr;
+
+    /**
+     * Construct Poisson sampler with specified mean.
+     *
+     * @param random the source of randomness
+     * @param mean   mean 0 &le; &mu; &le; 2<sup>62</sup> of the distribution
+     * @throws IllegalArgumentException if mean is out of range
+     */
+    public PoissonSampler(SFMTRandom random, double mean) throws IllegalArgumentException {
+        super(random);
+        setMean(mean);
+    }
+
+    /**
+     * Change the mean of this sampler and resolve the constants for it. This is used to draw from a mixture whose mean
+     * varies by sample without constructing a new sampler.
+     *
+     * @param mean mean 0 &le; &mu; &le; 2<sup>62</sup> of the distribution
+     * @throws IllegalArgumentException if mean is out of range
+     */
+    void setMean(double mean) throws IllegalArgumentException {
+        if (!(mean >= 0.0 && mean <= MAX_MEAN)) {
+            throw new IllegalArgumentException("mean must be in [0," + MAX_MEAN + "]: " + mean);
+        }
+        this.mean = mean;
+        if (mean < INVERSION_THRESHOLD) {
+            this.expNegMean = Math.exp(-mean);
+        } else {
+            this.logMean = Math.log(mean);
+            this.base = (long) Math.floor(mean);
+            this.fraction = mean - base;
+            this.b = 0.931 + 2.53 * Math.sqrt(mean);
+            this.a = -0.059 + 0.02483 * b;
+            this.invAlpha = 1.1239 + 1.1328 / (b - 3.4);
+            this.vr = 0.9277 - 3.6224 / (b - 2);
+        }
+    }
+
+    /**
+     * Return the mean of this distribution.
+     *
+     * @return mean &mu;
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    @Override
+    public long nextLong() {
+        if (mean < INVERSION_THRESHOLD) {
+            return inversion();
+        }
+        return transformedRejection();
+    }
+
+    /**
+     * Draw a sample by sequential search from zero.
+     *
+     * @return sample
+     */
+    private long inversion() {
+        retry:
+        while (true) {
+            double u = nextUniform();
+            double p = expNegMean;
+            double s = p;
+            long k = 0;
+            while (u >= s) {
+                k++;
+                p *= mean / k;
+                if (p == 0.0) {
+                    // the rounding error of the cumulative sum exceeds the remaining tail
+                    continue retry;
+                }
+                s += p;
+            }
+            return k;
+        }
+    }
+
+    /**
+     * Draw a sample by PTRS.
+     *
+     * @return sample
+     */
+    private long transformedRejection() {
+        while (true) {
+            double u = nextUniform() - 0.5;
+            double v = nextOpenUniform();
+            double us = 0.5 - Math.abs(u);
+            double dk = Math.floor((2 * a / us + b) * u + fraction + 0.43);
+            if (Math.abs(dk) > 0x1.0p61) {
+                // far beyond the range of 2^31 standard deviations, and rejected anyway
+                continue;
+            }
+            long k = base + (long) dk;
+            if (us >= 0.07 && v <= vr) {
+                return k;
+            }
+            if (k < 0 || (us < 0.013 && v > us)) {
+                continue;
+            }
+            if (Math.log(v * invAlpha / (a / (us * us) + b)) <= logProbability(k, dk - fraction)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * Calculate ln f(k) = -&mu; + k ln(&mu;) - ln(k!) of the Poisson distribution. For k &ge; 10 this is evaluated as
+     * (k-&mu;) - k ln(1 + (k-&mu;)/&mu;) - ln(2&pi;k)/2 - (Stirling tail), so that the large terms don't cancel.
+     *
+     * @param k sample
+     * @param d k - &mu;
+     * @return ln f(k)
+     */
+    private double logProbability(long k, double d) {
+        if (k < 10) {
+            return -mean + k * logMean - logFactorial(k);
+        }
+        return d - k * Math.log1p(d / mean) - 0.5 * Math.log(2 * Math.PI * k) - stirlingTail(k);
+    }
+}
@@ -57,6 +57,12 @@ public strictfp class SFMTRandom {
      */
     private int idx = 0;
 
+    /**
+     * work buffers for the shifted words in {@link #doRecursion(W128T, W128T, W128T, W128T, W128T)}
+     */
+    private final W128T x = new W128T();
+    private final W128T y = new W128T();
+
     /**
      * Default contructor uses P19937 and initializes its seed in current timestamp.
      */
@@ -131,24 +137,29 @@ public strictfp class SFMTRandom {
         return state;
     }
 
+    /*
+     * Accessors to the internal state as an array of 32-bit or 64-bit words. A W128T holds four 32-bit words (two
+     * 64-bit words), so the index is split by shift and mask rather than division and modulo.
+     */
+
     private int getInt(int i) {
-        return state[i / (W128T.BUFFER_SIZE / Integer.BYTES)].u(i % (W128T.BUFFER_SIZE / Integer.BYTES));
+        return state[i >>> 2].b[i & 3];
     }
 
     private void setInt(int i, int value) {
-        state[i / (W128T.BUFFER_SIZE / Integer.BYTES)].u(i % (W128T.BUFFER_SIZE / Integer.BYTES), value);
+        state[i >>> 2].b[i & 3] = value;
     }
 
     private void addInt(int i, int value) {
-        state[i / (W128T.BUFFER_SIZE / Integer.BYTES)].u_add(i % (W128T.BUFFER_SIZE / Integer.BYTES), value);
+        state[i >>> 2].b[i & 3] += value;
     }
 
     private void xorInt(int i, int value) {
-        state[i / (W128T.BUFFER_SIZE / Integer.BYTES)].u_xor(i % (W128T.BUFFER_SIZE / Integer.BYTES), value);
+        state[i >>> 2].b[i & 3] ^= value;
     }
 
     private long getLong(int i) {
-        return state[i / (W128T.BUFFER_SIZE / Long.BYTES)].u64(i % (W128T.BUFFER_SIZE / Long.BYTES));
+        return state[i >>> 1].u64(i & 1);
     }
 
     /**
@@ -208,8 +219,8 @@ public strictfp class SFMTRandom {
      * @since inline static void doRecursion(w128_t *r, w128_t *a, w128_t *b, w128_t *c,
      */
     private void doRecursion(W128T r, W128T a, W128T b, W128T c, W128T d) {
-        W128T x = a.lshift128(param.SFMT_SL2);
-        W128T y = c.rshift128(param.SFMT_SR2);
+        a.lshift128(x, param.SFMT_SL2);
+        c.rshift128(y, param.SFMT_SR2);
 
         for (int i = 0; i < 4; i++) {
             r.u(i, a.u(i) ^ (x.u(i) ^ (((b.u(i) >>> param.SFMT_SR1) & param.SFMT_MSK(i)) ^ (y.u(i) ^ (d.u(i) << param.SFMT_SL1)))));
@@ -438,9 +449,11 @@ public strictfp class SFMTRandom {
      * @since void sfmt_init_gen_rand(sfmt_t * sfmt, uint32_t seed)
      */
     public void setSeed(int seed) {
-        state[0].u(idxof(0), seed);
+        int r = seed;
+        setInt(idxof(0), r);
         for (int i = 1; i < param.SFMT_N32; i++) {
-            setInt(i, 1812433253 * (getInt(idxof(i - 1)) ^ (getInt(idxof(i - 1)) >>> 30)) + i);
+            r = 1812433253 * (r ^ (r >>> 30)) + i;
+            setInt(idxof(i), r);
         }
         idx = param.SFMT_N32;
         periodCertification();
@@ -453,7 +466,7 @@ public strictfp class SFMTRandom {
      * @since void sfmt_init_by_array(sfmt_t * sfmt, uint32_t *init_key, int key_length)
      */
     public void setSeed(int... seed) {
-        int size = param.SFMT_N * 4;
+        int size = param.SFMT_N32;
 
         int lag;
         if (size >= 623) {
@@ -474,52 +487,88 @@ public strictfp class SFMTRandom {
         }
 
         int count;
-        if (seed.length + 1 > param.SFMT_N32) {
+        if (seed.length + 1 > size) {
             count = seed.length + 1;
         } else {
-            count = param.SFMT_N32;
+            count = size;
         }
-        int r = func1(getInt(idxof(0)) ^ getInt(idxof(mid)) ^ getInt(idxof(param.SFMT_N32 - 1)));
+        int r = func1(getInt(idxof(0)) ^ getInt(idxof(mid)) ^ getInt(idxof(size - 1)));
         addInt(idxof(mid), r);
         r += seed.length;
         addInt(idxof(mid + lag), r);
         setInt(idxof(0), r);
 
+        // i, (i + mid) % size, (i + mid + lag) % size and (i + size - 1) % size are advanced together and wrapped by
+        // comparison instead of computing the modulo for each word
         int i = 1;
+        int iMid = (i + mid) % size;
+        int iLag = (i + mid + lag) % size;
+        int iPrev = i - 1;
         int j = 0;
         count--;
         for (; (j < count) && (j < seed.length); j++) {
-            r = func1(getInt(idxof(i)) ^ getInt(idxof((i + mid) % param.SFMT_N32))
-                    ^ getInt(idxof((i + param.SFMT_N32 - 1) % param.SFMT_N32)));
-            addInt(idxof((i + mid) % param.SFMT_N32), r);
+            r = func1(getInt(idxof(i)) ^ getInt(idxof(iMid)) ^ getInt(idxof(iPrev)));
+            addInt(idxof(iMid), r);
             r += seed[j] + i;
-            addInt(idxof((i + mid + lag) % param.SFMT_N32), r);
+            addInt(idxof(iLag), r);
             setInt(idxof(i), r);
-            i = (i + 1) % param.SFMT_N32;
+            iPrev = i;
+            i = (i + 1 == size) ? 0 : i + 1;
+            iMid = (iMid + 1 == size) ? 0 : iMid + 1;
+            iLag = (iLag + 1 == size) ? 0 : iLag + 1;
         }
         for (; j < count; j++) {
-            r = func1(getInt(idxof(i)) ^ getInt(idxof((i + mid) % param.SFMT_N32))
-                    ^ getInt(idxof((i + param.SFMT_N32 - 1) % param.SFMT_N32)));
-            addInt(idxof((i + mid) % param.SFMT_N32), r);
+            r = func1(getInt(idxof(i)) ^ getInt(idxof(iMid)) ^ getInt(idxof(iPrev)));
+            addInt(idxof(iMid), r);
             r += i;
-            addInt(idxof((i + mid + lag) % param.SFMT_N32), r);
+            addInt(idxof(iLag), r);
             setInt(idxof(i), r);
-            i = (i + 1) % param.SFMT_N32;
-        }
-        for (j = 0; j < param.SFMT_N32; j++) {
-            r = func2(getInt(idxof(i)) + getInt(idxof((i + mid) % param.SFMT_N32))
-                    + getInt(idxof((i + param.SFMT_N32 - 1) % param.SFMT_N32)));
-            xorInt(idxof((i + mid) % param.SFMT_N32), r);
+            iPrev = i;
+            i = (i + 1 == size) ? 0 : i + 1;
+            iMid = (iMid + 1 == size) ? 0 : iMid + 1;
+            iLag = (iLag + 1 == size) ? 0 : iLag + 1;
+        }
+        for (j = 0; j < size; j++) {
+            r = func2(getInt(idxof(i)) + getInt(idxof(iMid)) + getInt(idxof(iPrev)));
+            xorInt(idxof(iMid), r);
             r -= i;
-            xorInt(idxof((i + mid + lag) % param.SFMT_N32), r);
+            xorInt(idxof(iLag), r);
             setInt(idxof(i), r);
-            i = (i + 1) % param.SFMT_N32;
+            iPrev = i;
+            i = (i + 1 == size) ? 0 : i + 1;
+            iMid = (iMid + 1 == size) ? 0 : iMid + 1;
+            iLag = (iLag + 1 == size) ? 0 : iLag + 1;
         }
 
-        idx = param.SFMT_N32;
+        idx = size;
         periodCertification();
     }
 
+    /**
+     * Re-initialize this generator in place with specified 32bit integer seed, so that an instance can be reused
+     * instead of constructing a new one. The internal state buffer is not re-allocated.
+     *
+     * @param seed a 32-bit integer used as the seed.
+     * @return this instance
+     * @see #setSeed(int)
+     */
+    public SFMTRandom reset(int seed) {
+        setSeed(seed);
+        return this;
+    }
+
+    /**
+     * Re-initialize this generator in place with specified 32bit integer array seed, so that an instance can be reused
+     * instead of constructing a new one. The internal state buffer is not re-allocated.
+     *
+     * @param seed an array of 32bit integers as seed
+     * @return this instance
+     * @see #setSeed(int...)
+     */
+    public SFMTRandom reset(int... seed) {
+        setSeed(seed);
+        return this;
+    }
 
     /**
      * 128-bit data structure
@@ -574,12 +623,11 @@ public strictfp class SFMTRandom {
          * The 128-bit integer given in in is shifted by (shift * 8) bits.
          * This function simulates the LITTLE ENDIAN SIMD.
          *
+         * @param out   the output of this function
          * @param shift the shift value
          * @since inline static void lshift128(w128_t *out, w128_t const *in, int shift) {
          */
-        W128T lshift128(int shift) {
-            W128T out = new W128T();
-
+        void lshift128(W128T out, int shift) {
             long th = ((this.u(3) & 0xFFFFFFFFL) << 32) | (this.u(2) & 0xFFFFFFFFL);
             long tl = ((this.u(1) & 0xFFFFFFFFL) << 32) | (this.u(0) & 0xFFFFFFFFL);
 
@@ -590,7 +638,6 @@ public strictfp class SFMTRandom {
             out.u(0, (int) ol);
             out.u(3, (int) (oh >>> 32));
             out.u(2, (int) oh);
-            return out;
         }
 
         /**
@@ -598,12 +645,12 @@ public strictfp class SFMTRandom {
          * The 128-bit integer given in in is shifted by (shift * 8) bits.
          * This function simulates the LITTLE ENDIAN SIMD.
          *
+         * @param out   the output of this function
          * @param shift the shift value
          * @since inline static void rshift128(w128_t *out, w128_t const *in, int shift)
          */
-        W128T rshift128(int shift) {
+        void rshift128(W128T out, int shift) {
             long th, tl, oh, ol;
-            W128T out = new W128T();
 
             th = ((this.u(3) & 0xFFFFFFFFL) << 32) | ((this.u(2) & 0xFFFFFFFFL));
             tl = ((this.u(1) & 0xFFFFFFFFL) << 32) | ((this.u(0) & 0xFFFFFFFFL));
@@ -615,7 +662,6 @@ public strictfp class SFMTRandom {
             out.u(0, (int) ol);
             out.u(3, (int) (oh >>> 32));
             out.u(2, (int) oh);
-            return out;
         }
 
         public String toString() {
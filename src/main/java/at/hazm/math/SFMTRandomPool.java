@@ -0,0 +1,139 @@
+package at.hazm.math;
+
+/**
+ * A bounded pool of reusable {@link SFMTRandom} instances for short-lived deterministic streams, such as a generator
+ * per request keyed by its request ID.
+ * <p>Constructing {@link SFMTRandom} allocates the whole internal state array, so generators returned to this pool by
+ * {@link #release(SFMTRandom)} are re-seeded in place by {@link #acquire(int...)} instead. When the pool is empty a new
+ * generator is constructed, and when the pool is full a released generator is simply discarded. Releasing a generator
+ * that is already idle in this pool is ignored, so that it's never handed out to two callers.</p>
+ * <p>The pool itself is thread safe, but each acquired {@link SFMTRandom} is not and must be used by a single thread
+ * until it is released.</p>
+ *
+ * @author Takami Torao
+ */
+public class SFMTRandomPool {
+
+    private final SFMTParam param;
+
+    /**
+     * idle generators waiting for reuse, as a stack of {@link #size} elements
+     */
+    private final SFMTRandom[] pool;
+
+    /**
+     * number of idle generators in {@link #pool}
+     */
+    private int size = 0;
+
+    /**
+     * Construct pool of P19937 generators with specified capacity.
+     *
+     * @param capacity maximum number of idle generators to be retained
+     */
+    public SFMTRandomPool(int capacity) {
+        this(SFMTParam.P19937, capacity);
+    }
+
+    /**
+     * Construct pool of generators with specified parameters and capacity.
+     *
+     * @param param    SFMT parameters
+     * @param capacity maximum number of idle generators to be retained
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public SFMTRandomPool(SFMTParam param, int capacity) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.param = param;
+        this.pool = new SFMTRandom[capacity];
+    }
+
+    /**
+     * Retrieve a generator initialized with specified 32bit integer seed.
+     *
+     * @param seed a 32-bit integer used as the seed.
+     * @return seeded generator
+     */
+    public SFMTRandom acquire(int seed) {
+        SFMTRandom random = poll();
+        if (random == null) {
+            return new SFMTRandom(param, seed);
+        }
+        return random.reset(seed);
+    }
+
+    /**
+     * Retrieve a generator initialized with specified 32bit integer array seed.
+     *
+     * @param seed an array of 32bit integers as seed
+     * @return seeded generator
+     */
+    public SFMTRandom acquire(int... seed) {
+        SFMTRandom random = poll();
+        if (random == null) {
+            return new SFMTRandom(param, seed);
+        }
+        return random.reset(seed);
+    }
+
+    /**
+     * Return the specified generator to this pool for reuse. The caller must not use the generator after this call.
+     *
+     * @param random generator to be returned
+     * @return true if the generator is retained, or false if it's discarded because the pool is full or it's already
+     * idle in this pool
+     * @throws IllegalArgumentException if the generator uses different parameters from this pool
+     */
+    public synchronized boolean release(SFMTRandom random) throws IllegalArgumentException {
+        if (!random.getId().equals(param.SFMT_IDSTR)) {
+            throw new IllegalArgumentException(
+                    "incompatible generator: " + random.getId() + " for " + param.SFMT_IDSTR);
+        }
+        for (int i = 0; i < size; i++) {
+            if (pool[i] == random) {
+                return false;
+            }
+        }
+        if (size == pool.length) {
+            return false;
+        }
+        pool[size] = random;
+        size++;
+        return true;
+    }
+
+    /**
+     * Take out the most recently released idle generator.
+     *
+     * @return idle generator, or null if this pool is empty
+     */
+    private synchronized SFMTRandom poll() {
+        if (size == 0) {
+            return null;
+        }
+        size--;
+        SFMTRandom random = pool[size];
+        pool[size] = null;
+        return random;
+    }
+
+    /**
+     * Return the number of idle generators currently retained in this pool.
+     *
+     * @return number of idle generators
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Return the parameter identification string of generators managed by this pool.
+     *
+     * @return {@link SFMTParam#SFMT_IDSTR}
+     */
+    public String getId() {
+        return param.SFMT_IDSTR;
+    }
+}
@@ -0,0 +1,214 @@
+package at.hazm.math
+
+import org.specs2.Specification
+import org.specs2.execute.Result
+import org.specs2.specification.core.SpecStructure
+
+class DiscreteSamplerSpec extends Specification {
+  def is:SpecStructure =
+    s2"""
+       |poisson mean and variance                      $e0
+       |binomial mean and variance                     $e1
+       |geometric mean and variance                    $e2
+       |negative binomial mean and variance            $e3
+       |degenerate parameters                          $e4
+       |fill generates same samples as next            $e5
+       |invalid parameters                             $e6
+       |binomial distribution by BTPE                  $e7
+       |poisson distribution by PTRS                   $e8
+      """.stripMargin
+
+  private val Samples = 500000
+
+  private val ChiSquareSamples = 1000000
+
+  /**
+    * Verify the sample mean within 5 standard errors, and the sample variance within 5% of expected.
+    */
+  private def moments(name:String, sampler:DiscreteSampler, mean:Double, variance:Double):Result = {
+    // subtract the integer part as long so that the deviation is exact even for a large mean
+    val base = math.floor(mean).toLong
+    val samples = sampler.fill(new Array[Long](Samples))
+    val xs = samples.map(x => (x - base) - (mean - base))
+    val m = xs.sum / Samples
+    val v = xs.map(x => x * x).sum / Samples - m * m
+    ((samples.forall(_ >= 0) must beTrue.setMessage(s"$name: negative sample")) and
+      (math.abs(m) must be_<=(5 * math.sqrt(variance / Samples)).setMessage(s"$name: mean ${m + mean} != $mean")) and
+      (math.abs(v / variance - 1) must be_<(0.05).setMessage(s"$name: variance $v != $variance"))).toResult
+  }
+
+  /**
+    * Chi-square test of the samples against the bin probabilities {@code expected} of bins of the specified width
+    * from {@code lo}. Adjacent bins are merged until the expected count reaches 5, and the statistic must be less than
+    * df + 4&radic;(2df). All samples must fall in the bins.
+    */
+  private def chiSquare(name:String, sampler:DiscreteSampler, lo:Long, width:Long, expected:Array[Double]):Result = {
+    val observed = new Array[Long](expected.length)
+    var outside = 0
+    sampler.fill(new Array[Long](ChiSquareSamples)).foreach { x =>
+      val i = (x - lo) / width
+      if(x < lo || i >= expected.length) outside += 1 else observed(i.toInt) += 1
+    }
+    var chi = 0.0
+    var groups = 0
+    var e = 0.0
+    var o = 0L
+    for(i <- expected.indices) {
+      e += expected(i) * ChiSquareSamples
+      o += observed(i)
+      if(e >= 5) {
+        chi += (o - e) * (o - e) / e
+        groups += 1
+        e = 0.0
+        o = 0L
+      }
+    }
+    if(o > 0) {
+      // the remaining tail whose expected count may underflow to zero
+      chi += (o - e) * (o - e) / math.max(e, Double.MinPositiveValue)
+      groups += 1
+    } else if(e > 0) {
+      chi += e
+      groups += 1
+    }
+    val df = groups - 1
+    ((outside === 0) and
+      (chi must be_<(df + 4 * math.sqrt(2.0 * df)).setMessage(s"$name: chi2 $chi with df $df"))).toResult
+  }
+
+  /**
+    * Bin probabilities of the exact pmf f over [lo, hi], evaluated from the mode by the ratio ln(f(k)/f(k-1)).
+    */
+  private def exactPmf(mode:Long, lo:Long, hi:Long, width:Long, logRatio:Long => Double):Array[Double] = {
+    val p = new Array[Double](((hi - lo) / width + 1).toInt)
+    var logF = 0.0
+    var k = mode
+    while(k <= hi) {
+      p(((k - lo) / width).toInt) += math.exp(logF)
+      k += 1
+      logF += logRatio(k)
+    }
+    logF = 0.0
+    k = mode
+    while(k > lo) {
+      logF -= logRatio(k)
+      k -= 1
+      p(((k - lo) / width).toInt) += math.exp(logF)
+    }
+    val total = p.sum
+    p.map(_ / total)
+  }
+
+  /**
+    * Bin probabilities of the normal approximation N(mean, mean) of the Poisson distribution with continuity
+    * correction over [lo, hi]. The skewness 1/&radic;mean is negligible for a large mean.
+    */
+  private def normalPmf(mean:Double, lo:Long, hi:Long, width:Long):Array[Double] = {
+    val base = math.floor(mean).toLong
+    val sd = math.sqrt(mean)
+    def cdf(k:Long):Double = 0.5 * erfc(-((k - base) - (mean - base) - 0.5) / sd / math.sqrt(2))
+    (0L to (hi - lo) / width).map(i => cdf(lo + (i + 1) * width) - cdf(lo + i * width)).toArray
+  }
+
+  /**
+    * Complementary error function with fractional error less than 1.2&times;10<sup>-7</sup> (Numerical Recipes).
+    */
+  private def erfc(x:Double):Double = {
+    val z = math.abs(x)
+    val t = 1 / (1 + 0.5 * z)
+    val r = t * math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418 +
+      t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587 + t * (-0.82215223 +
+        t * 0.17087277)))))))))
+    if(x >= 0) r else 2 - r
+  }
+
+  private def e0 = {
+    val random = new SFMTRandom(1234)
+    Seq(0.5, 3.0, 9.99, 10.0, 100.0, 1e6, 1e13, 1e18).map { mu =>
+      moments(s"Poisson($mu)", new PoissonSampler(random, mu), mu, mu)
+    }.reduceLeft(_ and _)
+  }
+
+  private def e1 = {
+    val random = new SFMTRandom(1234)
+    (for(n <- Seq(10, 100, 10000); p <- Seq(0.01, 0.3, 0.5, 0.9)) yield {
+      moments(s"B($n,$p)", new BinomialSampler(random, n, p), n * p, n * p * (1 - p))
+    }).reduceLeft(_ and _) and Seq(1e-6, 0.5).map { p =>
+      val n = Int.MaxValue
+      moments(s"B($n,$p)", new BinomialSampler(random, n, p), n * p, n * p * (1 - p))
+    }.reduceLeft(_ and _)
+  }
+
+  private def e2 = {
+    val random = new SFMTRandom(1234)
+    Seq(0.9, 0.5, 0.34, 0.2, 0.01).map { p =>
+      moments(s"Geom($p)", new GeometricSampler(random, p), (1 - p) / p, (1 - p) / (p * p))
+    }.reduceLeft(_ and _)
+  }
+
+  private def e3 = {
+    val random = new SFMTRandom(1234)
+    (for(r <- Seq(0.5, 3.0, 100.0); p <- Seq(0.9, 0.5, 0.05)) yield {
+      moments(s"NB($r,$p)", new NegativeBinomialSampler(random, r, p), r * (1 - p) / p, r * (1 - p) / (p * p))
+    }).reduceLeft(_ and _)
+  }
+
+  private def e4 = {
+    val random = new SFMTRandom(1234)
+    (new PoissonSampler(random, 0.0).fill(new Array[Long](100)).forall(_ == 0) must beTrue) and
+      (new BinomialSampler(random, 100, 0.0).fill(new Array[Long](100)).forall(_ == 0) must beTrue) and
+      (new BinomialSampler(random, 100, 1.0).fill(new Array[Long](100)).forall(_ == 100) must beTrue) and
+      (new BinomialSampler(random, 0, 0.5).fill(new Array[Long](100)).forall(_ == 0) must beTrue) and
+      (new GeometricSampler(random, 1.0).fill(new Array[Long](100)).forall(_ == 0) must beTrue) and
+      (new NegativeBinomialSampler(random, 10, 1.0).fill(new Array[Long](100)).forall(_ == 0) must beTrue)
+  }
+
+  private def e5 = Seq[SFMTRandom => DiscreteSampler](
+    new PoissonSampler(_, 3.0), new PoissonSampler(_, 1000.0),
+    new BinomialSampler(_, 20, 0.3), new BinomialSampler(_, 1000, 0.7),
+    new GeometricSampler(_, 0.5), new GeometricSampler(_, 0.01),
+    new NegativeBinomialSampler(_, 2.0, 0.5), new NegativeBinomialSampler(_, 2.0, 0.01)
+  ).map { f =>
+    val s1 = f(new SFMTRandom(0))
+    val s2 = f(new SFMTRandom(0))
+    val s3 = f(new SFMTRandom(0))
+    val longs = s1.fill(new Array[Long](1000))
+    val ints = s2.fill(new Array[Int](1000))
+    (longs.toSeq === ints.toSeq.map(_.toLong)) and (longs.toSeq === Seq.fill(1000)(s3.nextLong()))
+  }.reduceLeft(_ and _)
+
+  private def e6 = {
+    val random = new SFMTRandom(1234)
+    (new PoissonSampler(random, -1.0) must throwA[IllegalArgumentException]) and
+      (new PoissonSampler(random, Double.NaN) must throwA[IllegalArgumentException]) and
+      (new PoissonSampler(random, Double.PositiveInfinity) must throwA[IllegalArgumentException]) and
+      (new PoissonSampler(random, 1e30) must throwA[IllegalArgumentException]) and
+      (new BinomialSampler(random, -1, 0.5) must throwA[IllegalArgumentException]) and
+      (new BinomialSampler(random, 10, 1.5) must throwA[IllegalArgumentException]) and
+      (new GeometricSampler(random, 0.0) must throwA[IllegalArgumentException]) and
+      (new NegativeBinomialSampler(random, 0.0, 0.5) must throwA[IllegalArgumentException]) and
+      (new NegativeBinomialSampler(random, 1.0, 0.0) must throwA[IllegalArgumentException]) and
+      (new NegativeBinomialSampler(random, 1.0, Double.MinPositiveValue) must throwA[IllegalArgumentException]) and
+      (new NegativeBinomialSampler(random, 1.0, 1e-300) must throwA[IllegalArgumentException]) and
+      (new GeometricSampler(random, 1e-300) must throwA[IllegalArgumentException]) and
+      (new PoissonSampler(random, 1e12).nextInt() must throwA[ArithmeticException])
+  }
+
+  private def e7 = {
+    (chiSquare("B(1000,0.3)", new BinomialSampler(new SFMTRandom(1234), 1000, 0.3), 0, 1,
+      exactPmf(300, 0, 1000, 1, k => math.log((1000.0 - k + 1) / k * 0.3 / 0.7)))) and
+      chiSquare("B(1000000,0.4)", new BinomialSampler(new SFMTRandom(1234), 1000000, 0.4), 395000, 1,
+        exactPmf(400000, 395000, 405000, 1, k => math.log((1e6 - k + 1) / k * 0.4 / 0.6)))
+  }
+
+  private def e8 = {
+    chiSquare("Poisson(100)", new PoissonSampler(new SFMTRandom(1234), 100), 0, 1,
+      exactPmf(100, 0, 250, 1, k => math.log(100.0 / k))) and Seq(1e13, 1e15, 1e18).map { mu =>
+      val base = math.floor(mu).toLong
+      val sd = math.sqrt(mu).toLong
+      chiSquare(s"Poisson($mu)", new PoissonSampler(new SFMTRandom(1234), mu), base - 8 * sd, sd / 4,
+        normalPmf(mu, base - 8 * sd, base + 8 * sd, sd / 4))
+    }.reduceLeft(_ and _)
+  }
+
+}
@@ -0,0 +1,49 @@
+package at.hazm.math
+
+/**
+  * Measures the latency of construct (or acquire) + seed + draw 100 random numbers, as used by a short-lived
+  * per-request stream. Run with `sbt "test:runMain at.hazm.math.SFMTRandomPoolBenchmark"`.
+  */
+object SFMTRandomPoolBenchmark {
+
+  private val Draws = 100
+  private val Warmup = 20000
+  private val Iterations = 200000
+
+  def main(args:Array[String]):Unit = {
+    val pool = new SFMTRandomPool(16)
+    Seq[(String, Int => Long)](
+      "new SFMTRandom(seed)" -> { seed =>
+        draw(new SFMTRandom(seed))
+      },
+      "new SFMTRandom(seed...)" -> { seed =>
+        draw(new SFMTRandom(seed, ~seed))
+      },
+      "pool.acquire(seed)" -> { seed =>
+        val random = pool.acquire(seed)
+        try draw(random) finally pool.release(random)
+      },
+      "pool.acquire(seed...)" -> { seed =>
+        val random = pool.acquire(seed, ~seed)
+        try draw(random) finally pool.release(random)
+      }
+    ).foreach { case (name, f) =>
+      var sink = 0L
+      (0 until Warmup).foreach(i => sink ^= f(i))
+      val t0 = System.nanoTime()
+      (0 until Iterations).foreach(i => sink ^= f(i))
+      val t = System.nanoTime() - t0
+      println(f"$name%-24s ${t.toDouble / Iterations}%10.1f ns/op ($sink%x)")
+    }
+  }
+
+  private def draw(random:SFMTRandom):Long = {
+    var x = 0L
+    var i = 0
+    while(i < Draws) {
+      x ^= random.nextLong()
+      i += 1
+    }
+    x
+  }
+}
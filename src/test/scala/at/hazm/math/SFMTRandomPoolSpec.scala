@@ -0,0 +1,60 @@
+package at.hazm.math
+
+import org.specs2.Specification
+import org.specs2.specification.core.SpecStructure
+
+class SFMTRandomPoolSpec extends Specification {
+  def is:SpecStructure =
+    s2"""
+       |reset generates same random as new instance    $e0
+       |acquire reuses released generator              $e1
+       |release discards generator over capacity       $e2
+       |release rejects incompatible generator         $e3
+       |capacity must be positive                      $e4
+       |release ignores generator already idle         $e5
+      """.stripMargin
+
+  val param:SFMTParam = SFMTParam.P19937
+
+  private def e0 = Seq(Array(0), Array(1234), Array(0x01234567, 0x89ABCDEF, 0xFEDCBA98, 0x76543210)).flatMap { seed =>
+    val reused = new SFMTRandom(param, 5678)
+    (0 until 1000).foreach(_ => reused.nextLong())
+    val expected = new SFMTRandom(param, seed:_*)
+    reused.reset(seed:_*)
+    (0 until 2000).map(i => s"$i:${expected.nextInt()}" === s"$i:${reused.nextInt()}")
+  }.reduceLeft(_ and _)
+
+  private def e1 = {
+    val pool = new SFMTRandomPool(param, 2)
+    val r1 = pool.acquire(1234)
+    (0 until 100).foreach(_ => r1.nextInt())
+    pool.release(r1)
+    val r2 = pool.acquire(1234)
+    val expected = new SFMTRandom(param, 1234)
+    (r2 must beTheSameAs(r1)) and (pool.size() === 0) and
+      (0 until 100).map(_ => r2.nextInt() === expected.nextInt()).reduceLeft(_ and _)
+  }
+
+  private def e2 = {
+    val pool = new SFMTRandomPool(param, 1)
+    val r1 = pool.acquire(1)
+    val r2 = pool.acquire(2)
+    (r1 must not(beTheSameAs(r2))) and (pool.release(r1) must beTrue) and (pool.release(r2) must beFalse) and
+      (pool.size() === 1)
+  }
+
+  private def e3 = {
+    val pool = new SFMTRandomPool(param, 1)
+    pool.release(new SFMTRandom(SFMTParam.P607, 0)) must throwA[IllegalArgumentException]
+  }
+
+  private def e4 = new SFMTRandomPool(param, 0) must throwA[IllegalArgumentException]
+
+  private def e5 = {
+    val pool = new SFMTRandomPool(param, 2)
+    val r1 = pool.acquire(1)
+    (pool.release(r1) must beTrue) and (pool.release(r1) must beFalse) and (pool.size() === 1) and
+      (pool.acquire(2) must beTheSameAs(r1)) and (pool.acquire(3) must not(beTheSameAs(r1)))
+  }
+
+}